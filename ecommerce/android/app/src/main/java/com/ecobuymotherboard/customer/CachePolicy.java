@@ -0,0 +1,141 @@
+package com.ecobuymotherboard.customer;
+
+import java.util.Locale;
+
+/**
+ * Parsed Cache-Control header plus the freshness rules the WebView response cache applies.
+ * Plain Java so it can be unit tested on the JVM.
+ */
+final class CachePolicy {
+    /** Upper bound for heuristic freshness derived from Last-Modified */
+    static final long HEURISTIC_MAX_MS = 24L * 60 * 60 * 1000;
+
+    enum Freshness {
+        /** Serve from cache, no network */
+        FRESH,
+        /** Serve from cache and revalidate in the background */
+        STALE_WHILE_REVALIDATE,
+        /** Revalidate before serving */
+        STALE
+    }
+
+    static final CachePolicy EMPTY = new CachePolicy(false, false, false, -1, -1);
+
+    final boolean noStore;
+    final boolean noCache;
+    final boolean mustRevalidate;
+    /** -1 when absent */
+    final long maxAgeMs;
+    /** -1 when absent */
+    final long staleWhileRevalidateMs;
+
+    private CachePolicy(boolean noStore, boolean noCache, boolean mustRevalidate, long maxAgeMs,
+                        long staleWhileRevalidateMs) {
+        this.noStore = noStore;
+        this.noCache = noCache;
+        this.mustRevalidate = mustRevalidate;
+        this.maxAgeMs = maxAgeMs;
+        this.staleWhileRevalidateMs = staleWhileRevalidateMs;
+    }
+
+    static CachePolicy parse(String header) {
+        if (header == null || header.isEmpty()) {
+            return EMPTY;
+        }
+        boolean noStore = false;
+        boolean noCache = false;
+        boolean mustRevalidate = false;
+        long maxAgeMs = -1;
+        long swrMs = -1;
+        for (String part : header.split(",")) {
+            String directive = part.trim();
+            String value = null;
+            int eq = directive.indexOf('=');
+            if (eq >= 0) {
+                value = directive.substring(eq + 1).trim();
+                directive = directive.substring(0, eq).trim();
+            }
+            switch (directive.toLowerCase(Locale.ROOT)) {
+                case "no-store":
+                    noStore = true;
+                    break;
+                // no-cache="field" only restricts those fields; treat it like plain no-cache to be safe
+                case "no-cache":
+                    noCache = true;
+                    break;
+                case "must-revalidate":
+                case "proxy-revalidate":
+                    mustRevalidate = true;
+                    break;
+                case "max-age":
+                    maxAgeMs = parseSeconds(value, maxAgeMs);
+                    break;
+                case "stale-while-revalidate":
+                    swrMs = parseSeconds(value, swrMs);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new CachePolicy(noStore, noCache, mustRevalidate, maxAgeMs, swrMs);
+    }
+
+    private static long parseSeconds(String value, long fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            long seconds = Long.parseLong(value);
+            if (seconds < 0) {
+                return fallback;
+            }
+            return seconds > Long.MAX_VALUE / 1000 ? Long.MAX_VALUE : seconds * 1000;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * How long a response stays fresh after it was received: max-age, then Expires, then 10% of
+     * the time since Last-Modified (capped at a day). Dates are epoch ms, 0 when absent.
+     */
+    long freshnessLifetimeMs(long dateMs, long expiresMs, long lastModifiedMs) {
+        if (noCache) {
+            return 0;
+        }
+        if (maxAgeMs >= 0) {
+            return maxAgeMs;
+        }
+        if (expiresMs > 0) {
+            return Math.max(0, expiresMs - dateMs);
+        }
+        if (lastModifiedMs > 0 && dateMs > lastModifiedMs) {
+            return Math.min((dateMs - lastModifiedMs) / 10, HEURISTIC_MAX_MS);
+        }
+        return 0;
+    }
+
+    /**
+     * How long past freshness a response may still be served while it revalidates in the
+     * background. The server's stale-while-revalidate wins; defaultMs applies when it sent none.
+     */
+    long staleWindowMs(long defaultMs) {
+        if (noCache || mustRevalidate) {
+            return 0;
+        }
+        return staleWhileRevalidateMs >= 0 ? staleWhileRevalidateMs : defaultMs;
+    }
+
+    static Freshness evaluate(long ageMs, long freshForMs, long staleWindowMs) {
+        if (ageMs < freshForMs) {
+            return Freshness.FRESH;
+        }
+        if (ageMs - freshForMs < staleWindowMs) {
+            return Freshness.STALE_WHILE_REVALIDATE;
+        }
+        return Freshness.STALE;
+    }
+}
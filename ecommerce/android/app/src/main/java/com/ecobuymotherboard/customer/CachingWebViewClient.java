@@ -0,0 +1,422 @@
+package com.ecobuymotherboard.customer;
+
+import android.net.Uri;
+import android.text.TextUtils;
+import android.util.Log;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebView;
+
+import com.getcapacitor.Bridge;
+import com.getcapacitor.BridgeWebViewClient;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bridge WebView client that answers catalogue GETs (product/category/page-content API calls and
+ * /uploads images) from WebResponseCache. Cached bodies are streamed straight from their files.
+ * Fresh entries never touch the network; stale entries inside the stale-while-revalidate window
+ * are served immediately and refreshed in the background; anything older is revalidated with
+ * If-None-Match / If-Modified-Since first. If the network fails, whatever is cached is served.
+ * Only /uploads/ images get a stale window when the server sends none; API responses without
+ * Cache-Control are revalidated on every request.
+ * Everything else, including requests carrying an Authorization header, goes through Capacitor's
+ * normal handling untouched.
+ */
+public class CachingWebViewClient extends BridgeWebViewClient {
+    private static final String TAG = "CachingWebViewClient";
+    private static final int CONNECT_TIMEOUT_MS = 15000;
+    private static final int READ_TIMEOUT_MS = 30000;
+    // Uploaded images are written once under a new name, so serve them up to a day stale while
+    // refreshing when the server doesn't say otherwise. API responses (prices, stock, the admin
+    // product list right after an edit) get no window and are revalidated against their ETag.
+    private static final long IMAGE_STALE_WINDOW_MS = 24L * 60 * 60 * 1000;
+    private static final String IMAGE_PATH_PREFIX = "/uploads/";
+
+    private static final String[] CACHED_PATH_PREFIXES = {
+            IMAGE_PATH_PREFIX, "/api/products", "/api/categories", "/api/page-content"
+    };
+
+    // Response headers replayed from the cache; Content-Encoding/Length are gone after
+    // HttpURLConnection's transparent gzip handling
+    private static final String[] STORED_HEADERS = {
+            "Content-Type", "Cache-Control", "ETag", "Last-Modified", "Access-Control-Allow-Origin",
+            "Access-Control-Allow-Credentials", "Access-Control-Expose-Headers"
+    };
+
+    // Request headers not forwarded: compression and validators are handled here, ranges bypass
+    private static final String[] DROPPED_REQUEST_HEADERS = {
+            "accept-encoding", "if-none-match", "if-modified-since", "cache-control", "pragma"
+    };
+
+    // Shared across activity recreation so each new client doesn't leave a thread behind
+    private static final ExecutorService REVALIDATOR = Executors.newSingleThreadExecutor();
+    // ConcurrentHashMap.newKeySet() is API 24; minSdk is 23
+    private static final Set<String> REVALIDATING =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private final Bridge bridge;
+    private final WebResponseCache cache;
+
+    public CachingWebViewClient(Bridge bridge, WebResponseCache cache) {
+        super(bridge);
+        this.bridge = bridge;
+        this.cache = cache;
+    }
+
+    @Override
+    public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+        if (isCacheable(request)) {
+            WebResourceResponse response = intercept(request);
+            if (response != null) {
+                return response;
+            }
+        }
+        return super.shouldInterceptRequest(view, request);
+    }
+
+    private boolean isCacheable(WebResourceRequest request) {
+        if (!"GET".equals(request.getMethod()) || request.isForMainFrame()) {
+            return false;
+        }
+        Uri uri = request.getUrl();
+        String scheme = uri.getScheme();
+        if (!"https".equals(scheme) && !"http".equals(scheme)) {
+            return false;
+        }
+        // Capacitor serves the bundled web app from its own host
+        if (bridge.getHost().equals(uri.getHost())) {
+            return false;
+        }
+        String path = uri.getPath();
+        if (path == null || !hasCachedPrefix(path)) {
+            return false;
+        }
+        for (String name : request.getRequestHeaders().keySet()) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            // Per-user responses and partial content are never cached
+            if (lower.equals("authorization") || lower.equals("range")) {
+                return false;
+            }
+        }
+        return !CachePolicy.parse(header(request.getRequestHeaders(), "Cache-Control")).noStore;
+    }
+
+    private static boolean hasCachedPrefix(String path) {
+        for (String prefix : CACHED_PATH_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private WebResourceResponse intercept(WebResourceRequest request) {
+        String url = request.getUrl().toString();
+        Map<String, String> requestHeaders = forwardedHeaders(request.getRequestHeaders());
+        boolean forceRevalidate = CachePolicy.parse(header(request.getRequestHeaders(), "Cache-Control")).noCache;
+
+        WebResponseCache.Entry entry = cache.lookup(url);
+        if (entry != null && !forceRevalidate) {
+            CachePolicy.Freshness freshness = entry.freshness(System.currentTimeMillis());
+            if (freshness != CachePolicy.Freshness.STALE) {
+                WebResourceResponse response = serve(entry);
+                if (response != null) {
+                    if (freshness == CachePolicy.Freshness.FRESH) {
+                        cache.stats().hits.incrementAndGet();
+                    } else {
+                        cache.stats().staleHits.incrementAndGet();
+                        revalidateInBackground(url, requestHeaders, entry);
+                    }
+                    return response;
+                }
+                entry = null;
+            }
+        }
+
+        try {
+            return fetch(url, requestHeaders, entry, false);
+        } catch (IOException e) {
+            if (entry != null) {
+                WebResourceResponse response = serve(entry);
+                if (response != null) {
+                    cache.stats().offlineHits.incrementAndGet();
+                    return response;
+                }
+            }
+            Log.w(TAG, "Fetch failed for " + url + ": " + e.getMessage());
+            // Let the WebView try (and report the failure) itself
+            return null;
+        }
+    }
+
+    private void revalidateInBackground(String url, Map<String, String> requestHeaders, WebResponseCache.Entry entry) {
+        if (!REVALIDATING.add(url)) {
+            return;
+        }
+        REVALIDATOR.execute(() -> {
+            try {
+                WebResourceResponse response = fetch(url, requestHeaders, entry, true);
+                if (response != null && response.getData() != null) {
+                    response.getData().close();
+                }
+                cache.stats().backgroundRefreshes.incrementAndGet();
+            } catch (IOException e) {
+                // Keep the stale copy; the next request tries again
+            } finally {
+                REVALIDATING.remove(url);
+            }
+        });
+    }
+
+    /**
+     * Network request, conditional when an entry with validators exists. Stores cacheable 200s
+     * and returns a response reading from the stored file; other responses stream through.
+     */
+    private WebResourceResponse fetch(String url, Map<String, String> requestHeaders,
+                                      WebResponseCache.Entry entry, boolean background) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        connection.setUseCaches(false);
+        for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+            connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+        if (entry != null) {
+            if (entry.etag != null) {
+                connection.setRequestProperty("If-None-Match", entry.etag);
+            }
+            if (entry.lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", entry.lastModified);
+            }
+        }
+
+        try {
+            int status = connection.getResponseCode();
+            long now = System.currentTimeMillis();
+            CachePolicy policy = CachePolicy.parse(connection.getHeaderField("Cache-Control"));
+
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && entry != null) {
+                long freshFor = freshnessLifetime(connection, policy, now);
+                connection.disconnect();
+                WebResponseCache.Entry refreshed = cache.refresh(entry, now, freshFor,
+                        policy.staleWindowMs(defaultStaleWindowMs(url)));
+                WebResourceResponse response = serve(refreshed);
+                if (response == null) {
+                    // Body vanished under us; fetch it again without validators
+                    return fetch(url, requestHeaders, null, background);
+                }
+                if (!background) {
+                    cache.stats().revalidatedHits.incrementAndGet();
+                }
+                return response;
+            }
+            if (status >= 300 && status < 400) {
+                // Redirects are followed by HttpURLConnection; anything left can't be
+                // expressed as a WebResourceResponse, so let the WebView handle it
+                connection.disconnect();
+                return null;
+            }
+            if (!background) {
+                cache.stats().misses.incrementAndGet();
+            }
+            if (status == HttpURLConnection.HTTP_OK && isStorable(connection, policy)) {
+                return store(url, connection, policy, now);
+            }
+            if (status == HttpURLConnection.HTTP_NOT_FOUND || status == 410) {
+                cache.remove(url);
+            }
+            return passThrough(connection, status);
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    private boolean isStorable(HttpURLConnection connection, CachePolicy policy) {
+        if (policy.noStore) {
+            return false;
+        }
+        // getContentLengthLong() is API 24; -1 when absent or over 2 GB, and store() still caps the copy
+        long length = connection.getContentLength();
+        if (length > cache.maxEntryBytes()) {
+            return false;
+        }
+        String vary = connection.getHeaderField("Vary");
+        if (vary != null) {
+            for (String field : vary.split(",")) {
+                String name = field.trim().toLowerCase(Locale.ROOT);
+                // The app origin and our own compression handling never change between requests
+                if (!name.isEmpty() && !name.equals("origin") && !name.equals("accept-encoding")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the body to a temp file, commits it to the cache and serves it from that file. The
+     * stream is opened before commit, so it reads the same file whether it ends up cached,
+     * replaced or evicted. Bodies that turn out larger than the per-entry cap keep streaming
+     * from the network after the part already on disk.
+     */
+    private WebResourceResponse store(String url, HttpURLConnection connection, CachePolicy policy, long now)
+            throws IOException {
+        String[] contentType = parseContentType(connection.getContentType(), url);
+        Map<String, String> headers = storedHeaders(connection);
+        String etag = connection.getHeaderField("ETag");
+        String lastModified = connection.getHeaderField("Last-Modified");
+        long freshFor = freshnessLifetime(connection, policy, now);
+        File temp = cache.newTempFile();
+        InputStream network = connection.getInputStream();
+        boolean complete = false;
+        try {
+            try (OutputStream out = new FileOutputStream(temp)) {
+                byte[] buffer = new byte[16 * 1024];
+                long written = 0;
+                int n;
+                while (written <= cache.maxEntryBytes() && (n = network.read(buffer)) >= 0) {
+                    out.write(buffer, 0, n);
+                    written += n;
+                }
+                complete = written <= cache.maxEntryBytes();
+            }
+            InputStream body = new FileInputStream(temp);
+            if (complete) {
+                network.close();
+                connection.disconnect();
+                cache.commit(temp, url, contentType[0], contentType[1], headers, etag, lastModified, now,
+                        freshFor, policy.staleWindowMs(defaultStaleWindowMs(url)));
+            } else {
+                // Unlinked files stay readable while open
+                temp.delete();
+                body = new SequenceInputStream(body, network);
+            }
+            return new WebResourceResponse(contentType[0], contentType[1], HttpURLConnection.HTTP_OK, "OK",
+                    headers, body);
+        } catch (IOException e) {
+            temp.delete();
+            network.close();
+            throw e;
+        }
+    }
+
+    private WebResourceResponse passThrough(HttpURLConnection connection, int status) throws IOException {
+        String[] contentType = parseContentType(connection.getContentType(), connection.getURL().getPath());
+        Map<String, String> headers = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+            // The status line comes back under a null key
+            if (header.getKey() != null && !header.getValue().isEmpty()) {
+                headers.put(header.getKey(), TextUtils.join(", ", header.getValue()));
+            }
+        }
+        headers.remove("Content-Encoding");
+        headers.remove("Content-Length");
+        InputStream body = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        String reason = connection.getResponseMessage();
+        if (reason == null || reason.isEmpty()) {
+            reason = status < 400 ? "OK" : "Error";
+        }
+        return new WebResourceResponse(contentType[0], contentType[1], status, reason, headers, body);
+    }
+
+    private WebResourceResponse serve(WebResponseCache.Entry entry) {
+        InputStream body = cache.open(entry);
+        if (body == null) {
+            return null;
+        }
+        return new WebResourceResponse(entry.mimeType, entry.encoding, HttpURLConnection.HTTP_OK, "OK",
+                new HashMap<>(entry.headers), body);
+    }
+
+    /**
+     * Stale-while-revalidate window applied when the response carries none of its own.
+     */
+    private static long defaultStaleWindowMs(String url) {
+        String path = Uri.parse(url).getPath();
+        return path != null && path.startsWith(IMAGE_PATH_PREFIX) ? IMAGE_STALE_WINDOW_MS : 0;
+    }
+
+    private static long freshnessLifetime(HttpURLConnection connection, CachePolicy policy, long now) {
+        long date = connection.getHeaderFieldDate("Date", now);
+        return policy.freshnessLifetimeMs(date, connection.getHeaderFieldDate("Expires", 0),
+                connection.getHeaderFieldDate("Last-Modified", 0));
+    }
+
+    private static Map<String, String> storedHeaders(HttpURLConnection connection) {
+        Map<String, String> headers = new HashMap<>();
+        for (String name : STORED_HEADERS) {
+            String value = connection.getHeaderField(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        return headers;
+    }
+
+    private static Map<String, String> forwardedHeaders(Map<String, String> requestHeaders) {
+        Map<String, String> headers = new HashMap<>();
+        outer:
+        for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+            String lower = header.getKey().toLowerCase(Locale.ROOT);
+            for (String dropped : DROPPED_REQUEST_HEADERS) {
+                if (lower.equals(dropped)) {
+                    continue outer;
+                }
+            }
+            headers.put(header.getKey(), header.getValue());
+        }
+        return headers;
+    }
+
+    private static String header(Map<String, String> headers, String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return { mime type, charset or null }
+     */
+    private static String[] parseContentType(String contentType, String path) {
+        if (contentType == null || contentType.isEmpty()) {
+            String guessed = URLConnection.guessContentTypeFromName(path);
+            return new String[] { guessed != null ? guessed : "application/octet-stream", null };
+        }
+        String mime = contentType;
+        String charset = null;
+        int semicolon = contentType.indexOf(';');
+        if (semicolon >= 0) {
+            mime = contentType.substring(0, semicolon);
+            for (String param : contentType.substring(semicolon + 1).split(";")) {
+                String trimmed = param.trim();
+                if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                    charset = trimmed.substring(8).replace("\"", "");
+                }
+            }
+        }
+        return new String[] { mime.trim(), charset };
+    }
+}
@@ -1,5 +1,18 @@
 package com.ecobuymotherboard.customer;
 
+import android.os.Bundle;
+
 import com.getcapacitor.BridgeActivity;
 
-public class MainActivity extends BridgeActivity {}
+public class MainActivity extends BridgeActivity {
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        registerPlugin(WebCachePlugin.class);
+
+        super.onCreate(savedInstanceState);
+
+        // Serve catalogue API responses and product images from the on-device cache
+        getBridge().setWebViewClient(new CachingWebViewClient(getBridge(), WebResponseCache.get(this)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecobuymotherboard.customer;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * Capacitor Plugin exposing the native WebView response cache to JavaScript:
+ *   WebCache.getStats()                      hit/miss counters and disk usage
+ *   WebCache.purge({ urlPrefix? })           drop everything, or entries under a url prefix
+ *   WebCache.resetStats()
+ */
+@CapacitorPlugin(name = "WebCache")
+public class WebCachePlugin extends Plugin {
+
+    @PluginMethod
+    public void getStats(PluginCall call) {
+        WebResponseCache cache = WebResponseCache.get(getContext());
+        WebResponseCache.Stats stats = cache.stats();
+        long hits = stats.hits.get();
+        long staleHits = stats.staleHits.get();
+        long revalidatedHits = stats.revalidatedHits.get();
+        long offlineHits = stats.offlineHits.get();
+        long misses = stats.misses.get();
+        long served = hits + staleHits + revalidatedHits + offlineHits;
+
+        JSObject result = new JSObject();
+        result.put("hits", hits);
+        result.put("staleHits", staleHits);
+        result.put("revalidatedHits", revalidatedHits);
+        result.put("offlineHits", offlineHits);
+        result.put("misses", misses);
+        result.put("hitRate", served + misses == 0 ? 0 : (double) served / (served + misses));
+        result.put("backgroundRefreshes", stats.backgroundRefreshes.get());
+        result.put("bytesServedFromDisk", stats.bytesServedFromDisk.get());
+        result.put("evictions", stats.evictions.get());
+        result.put("entryCount", cache.entryCount());
+        result.put("sizeBytes", cache.sizeBytes());
+        result.put("maxSizeBytes", cache.maxSizeBytes());
+        call.resolve(result);
+    }
+
+    @PluginMethod
+    public void purge(PluginCall call) {
+        long[] purged = WebResponseCache.get(getContext()).purge(call.getString("urlPrefix"));
+        JSObject result = new JSObject();
+        result.put("removedEntries", purged[0]);
+        result.put("freedBytes", purged[1]);
+        call.resolve(result);
+    }
+
+    @PluginMethod
+    public void resetStats(PluginCall call) {
+        WebResponseCache.get(getContext()).stats().reset();
+        JSObject result = new JSObject();
+        result.put("success", true);
+        call.resolve(result);
+    }
+}
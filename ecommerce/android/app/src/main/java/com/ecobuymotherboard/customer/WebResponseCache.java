@@ -0,0 +1,418 @@
+package com.ecobuymotherboard.customer;
+
+import android.content.Context;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded disk LRU for WebView responses. Each entry is a body file holding the raw
+ * response bytes plus a small JSON .meta file with the headers and freshness data, so bodies
+ * can be streamed straight from disk. The in-memory index is rebuilt from the .meta files on
+ * first use; body file mtime records last access so LRU order survives restarts.
+ */
+final class WebResponseCache {
+    private static final String TAG = "WebResponseCache";
+    private static final String DIR_NAME = "webview-response-cache";
+    private static final String BODY_SUFFIX = ".body";
+    private static final String META_SUFFIX = ".meta";
+    private static final long MAX_SIZE_BYTES = 64L * 1024 * 1024;
+    private static final long MAX_ENTRY_BYTES = 8L * 1024 * 1024;
+
+    private static WebResponseCache instance;
+
+    /**
+     * Metadata for one cached response. Immutable; revalidation replaces it.
+     */
+    static final class Entry {
+        final String key;
+        final String url;
+        final String mimeType;
+        final String encoding;
+        final Map<String, String> headers;
+        final String etag;
+        final String lastModified;
+        final long storedAt;
+        final long freshForMs;
+        final long staleWindowMs;
+        final long size;
+
+        Entry(String key, String url, String mimeType, String encoding, Map<String, String> headers,
+              String etag, String lastModified, long storedAt, long freshForMs, long staleWindowMs, long size) {
+            this.key = key;
+            this.url = url;
+            this.mimeType = mimeType;
+            this.encoding = encoding;
+            this.headers = headers;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.storedAt = storedAt;
+            this.freshForMs = freshForMs;
+            this.staleWindowMs = staleWindowMs;
+            this.size = size;
+        }
+
+        CachePolicy.Freshness freshness(long now) {
+            return CachePolicy.evaluate(now - storedAt, freshForMs, staleWindowMs);
+        }
+
+        Entry revalidated(long now, long freshForMs, long staleWindowMs) {
+            return new Entry(key, url, mimeType, encoding, headers, etag, lastModified, now, freshForMs,
+                    staleWindowMs, size);
+        }
+    }
+
+    /**
+     * Hit/miss counters since process start or the last resetStats().
+     */
+    static final class Stats {
+        /** Served fresh from disk, no network */
+        final AtomicLong hits = new AtomicLong();
+        /** Served stale from disk while a background revalidation ran */
+        final AtomicLong staleHits = new AtomicLong();
+        /** Served from disk after the server answered 304 Not Modified */
+        final AtomicLong revalidatedHits = new AtomicLong();
+        /** Served stale from disk because the network request failed */
+        final AtomicLong offlineHits = new AtomicLong();
+        /** Went to the network and got a full response */
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong backgroundRefreshes = new AtomicLong();
+        final AtomicLong bytesServedFromDisk = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+
+        void reset() {
+            hits.set(0);
+            staleHits.set(0);
+            revalidatedHits.set(0);
+            offlineHits.set(0);
+            misses.set(0);
+            backgroundRefreshes.set(0);
+            bytesServedFromDisk.set(0);
+            evictions.set(0);
+        }
+    }
+
+    private final File dir;
+    private final Stats stats = new Stats();
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes = 0;
+    private boolean loaded = false;
+
+    public static synchronized WebResponseCache get(Context context) {
+        if (instance == null) {
+            instance = new WebResponseCache(new File(context.getApplicationContext().getCacheDir(), DIR_NAME));
+        }
+        return instance;
+    }
+
+    private WebResponseCache(File dir) {
+        this.dir = dir;
+    }
+
+    Stats stats() {
+        return stats;
+    }
+
+    long maxEntryBytes() {
+        return MAX_ENTRY_BYTES;
+    }
+
+    long maxSizeBytes() {
+        return MAX_SIZE_BYTES;
+    }
+
+    synchronized int entryCount() {
+        ensureLoaded();
+        return index.size();
+    }
+
+    synchronized long sizeBytes() {
+        ensureLoaded();
+        return totalBytes;
+    }
+
+    synchronized Entry lookup(String url) {
+        ensureLoaded();
+        return index.get(keyFor(url));
+    }
+
+    /**
+     * Opens the body for reading and marks the entry as used. Returns null if the body file
+     * disappeared (evicted or purged since lookup). An open stream keeps reading fine even if
+     * the entry is evicted afterwards.
+     */
+    InputStream open(Entry entry) {
+        File body = bodyFile(entry.key);
+        try {
+            InputStream in = new FileInputStream(body);
+            // Persist LRU order across restarts; best effort
+            body.setLastModified(System.currentTimeMillis());
+            synchronized (this) {
+                index.get(entry.key);
+            }
+            stats.bytesServedFromDisk.addAndGet(entry.size);
+            return in;
+        } catch (IOException e) {
+            synchronized (this) {
+                removeLocked(entry.key);
+            }
+            return null;
+        }
+    }
+
+    File newTempFile() throws IOException {
+        synchronized (this) {
+            // Loading sweeps leftover temp files, so it must never run after this one exists
+            ensureLoaded();
+        }
+        ensureDir();
+        return File.createTempFile("tmp-", null, dir);
+    }
+
+    /**
+     * Moves a fully written temp file into the cache as the body of a new entry, replacing any
+     * previous entry for the same url, then evicts least recently used entries over budget.
+     */
+    Entry commit(File temp, String url, String mimeType, String encoding, Map<String, String> headers,
+                 String etag, String lastModified, long storedAt, long freshForMs, long staleWindowMs) {
+        String key = keyFor(url);
+        Entry entry = new Entry(key, url, mimeType, encoding, headers, etag, lastModified, storedAt,
+                freshForMs, staleWindowMs, temp.length());
+        synchronized (this) {
+            ensureLoaded();
+            if (!writeMeta(entry) || !temp.renameTo(bodyFile(key))) {
+                temp.delete();
+                removeLocked(key);
+                return null;
+            }
+            Entry previous = index.put(key, entry);
+            if (previous != null) {
+                totalBytes -= previous.size;
+            }
+            totalBytes += entry.size;
+            trimLocked(key);
+        }
+        return entry;
+    }
+
+    /**
+     * Records a 304 Not Modified: same body, new freshness.
+     */
+    synchronized Entry refresh(Entry entry, long now, long freshForMs, long staleWindowMs) {
+        Entry updated = entry.revalidated(now, freshForMs, staleWindowMs);
+        if (!index.containsKey(entry.key) || !writeMeta(updated)) {
+            return entry;
+        }
+        index.put(entry.key, updated);
+        return updated;
+    }
+
+    synchronized void remove(String url) {
+        ensureLoaded();
+        removeLocked(keyFor(url));
+    }
+
+    /**
+     * Drops every entry whose url starts with urlPrefix, or everything when it is null or empty.
+     *
+     * @return { removed entry count, freed bytes }
+     */
+    synchronized long[] purge(String urlPrefix) {
+        ensureLoaded();
+        boolean all = urlPrefix == null || urlPrefix.isEmpty();
+        List<String> keys = new ArrayList<>();
+        long freed = 0;
+        for (Entry entry : index.values()) {
+            if (all || entry.url.startsWith(urlPrefix)) {
+                keys.add(entry.key);
+                freed += entry.size;
+            }
+        }
+        for (String key : keys) {
+            removeLocked(key);
+        }
+        if (all) {
+            // Also clears orphaned temp files from interrupted downloads
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            totalBytes = 0;
+        }
+        return new long[] { keys.size(), freed };
+    }
+
+    private void trimLocked(String keep) {
+        Iterator<Entry> it = index.values().iterator();
+        while (totalBytes > MAX_SIZE_BYTES && it.hasNext()) {
+            Entry eldest = it.next();
+            if (eldest.key.equals(keep)) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.size;
+            deleteFiles(eldest.key);
+            stats.evictions.incrementAndGet();
+        }
+    }
+
+    private void removeLocked(String key) {
+        Entry removed = index.remove(key);
+        if (removed != null) {
+            totalBytes -= removed.size;
+        }
+        deleteFiles(key);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>();
+        Map<String, Long> lastAccess = new HashMap<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith("tmp-")) {
+                // Left behind by a download that never finished
+                file.delete();
+                continue;
+            }
+            if (!name.endsWith(META_SUFFIX)) {
+                continue;
+            }
+            String key = name.substring(0, name.length() - META_SUFFIX.length());
+            File body = bodyFile(key);
+            Entry entry = readMeta(key, file);
+            if (entry == null || !body.isFile() || body.length() != entry.size) {
+                deleteFiles(key);
+                continue;
+            }
+            entries.add(entry);
+            lastAccess.put(key, body.lastModified());
+        }
+        Collections.sort(entries, (a, b) -> Long.compare(lastAccess.get(a.key), lastAccess.get(b.key)));
+        for (Entry entry : entries) {
+            index.put(entry.key, entry);
+            totalBytes += entry.size;
+        }
+        trimLocked("");
+        Log.d(TAG, "Loaded " + index.size() + " entries, " + totalBytes + " bytes");
+    }
+
+    private boolean writeMeta(Entry entry) {
+        try {
+            JSONObject headers = new JSONObject();
+            for (Map.Entry<String, String> header : entry.headers.entrySet()) {
+                headers.put(header.getKey(), header.getValue());
+            }
+            JSONObject meta = new JSONObject();
+            meta.put("url", entry.url);
+            meta.put("mimeType", entry.mimeType);
+            meta.put("encoding", entry.encoding);
+            meta.put("headers", headers);
+            meta.put("etag", entry.etag);
+            meta.put("lastModified", entry.lastModified);
+            meta.put("storedAt", entry.storedAt);
+            meta.put("freshForMs", entry.freshForMs);
+            meta.put("staleWindowMs", entry.staleWindowMs);
+            meta.put("size", entry.size);
+
+            ensureDir();
+            File temp = new File(dir, "tmp-" + entry.key + META_SUFFIX);
+            try (OutputStream out = new FileOutputStream(temp)) {
+                out.write(meta.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return temp.renameTo(metaFile(entry.key));
+        } catch (JSONException | IOException e) {
+            Log.w(TAG, "Failed to write cache metadata for " + entry.url, e);
+            return false;
+        }
+    }
+
+    private Entry readMeta(String key, File file) {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] bytes = new byte[(int) file.length()];
+            int read = 0;
+            while (read < bytes.length) {
+                int n = in.read(bytes, read, bytes.length - read);
+                if (n < 0) {
+                    return null;
+                }
+                read += n;
+            }
+            JSONObject meta = new JSONObject(new String(bytes, StandardCharsets.UTF_8));
+            JSONObject headersJson = meta.getJSONObject("headers");
+            Map<String, String> headers = new HashMap<>();
+            Iterator<String> names = headersJson.keys();
+            while (names.hasNext()) {
+                String name = names.next();
+                headers.put(name, headersJson.getString(name));
+            }
+            return new Entry(key, meta.getString("url"), meta.getString("mimeType"),
+                    meta.optString("encoding", null), headers, meta.optString("etag", null),
+                    meta.optString("lastModified", null), meta.getLong("storedAt"),
+                    meta.getLong("freshForMs"), meta.getLong("staleWindowMs"), meta.getLong("size"));
+        } catch (JSONException | IOException e) {
+            return null;
+        }
+    }
+
+    private void ensureDir() throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+    }
+
+    private void deleteFiles(String key) {
+        bodyFile(key).delete();
+        metaFile(key).delete();
+    }
+
+    private File bodyFile(String key) {
+        return new File(dir, key + BODY_SUFFIX);
+    }
+
+    private File metaFile(String key) {
+        return new File(dir, key + META_SUFFIX);
+    }
+
+    private static String keyFor(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
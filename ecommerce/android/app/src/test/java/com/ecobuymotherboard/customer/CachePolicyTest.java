@@ -0,0 +1,57 @@
+package com.ecobuymotherboard.customer;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CachePolicyTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Test
+    public void parse_readsDirectivesCaseInsensitively() {
+        CachePolicy policy = CachePolicy.parse("Public, MAX-AGE=60, stale-while-revalidate=\"30\"");
+
+        assertFalse(policy.noStore);
+        assertFalse(policy.noCache);
+        assertEquals(60_000, policy.maxAgeMs);
+        assertEquals(30_000, policy.staleWhileRevalidateMs);
+    }
+
+    @Test
+    public void parse_ignoresMalformedValues() {
+        CachePolicy policy = CachePolicy.parse("max-age=abc, stale-while-revalidate=-5, no-store");
+
+        assertTrue(policy.noStore);
+        assertEquals(-1, policy.maxAgeMs);
+        assertEquals(-1, policy.staleWhileRevalidateMs);
+        assertSame(CachePolicy.EMPTY, CachePolicy.parse(null));
+    }
+
+    @Test
+    public void lifetime_prefersMaxAgeThenExpiresThenHeuristic() {
+        long date = 100 * DAY;
+
+        assertEquals(0, CachePolicy.parse("public, max-age=0").freshnessLifetimeMs(date, date + DAY, date - DAY));
+        assertEquals(DAY, CachePolicy.EMPTY.freshnessLifetimeMs(date, date + DAY, 0));
+        assertEquals(DAY / 10, CachePolicy.EMPTY.freshnessLifetimeMs(date, 0, date - DAY));
+        assertEquals(CachePolicy.HEURISTIC_MAX_MS, CachePolicy.EMPTY.freshnessLifetimeMs(date, 0, date - 50 * DAY));
+        assertEquals(0, CachePolicy.EMPTY.freshnessLifetimeMs(date, 0, 0));
+        assertEquals(0, CachePolicy.parse("no-cache, max-age=600").freshnessLifetimeMs(date, 0, 0));
+    }
+
+    @Test
+    public void staleWindow_serverValueWinsAndRevalidationDirectivesDisableIt() {
+        assertEquals(DAY, CachePolicy.EMPTY.staleWindowMs(DAY));
+        assertEquals(5_000, CachePolicy.parse("max-age=1, stale-while-revalidate=5").staleWindowMs(DAY));
+        assertEquals(0, CachePolicy.parse("max-age=1, must-revalidate").staleWindowMs(DAY));
+        assertEquals(0, CachePolicy.parse("no-cache").staleWindowMs(DAY));
+    }
+
+    @Test
+    public void evaluate_movesFromFreshToStaleWhileRevalidateToStale() {
+        assertEquals(CachePolicy.Freshness.FRESH, CachePolicy.evaluate(59_999, 60_000, 30_000));
+        assertEquals(CachePolicy.Freshness.STALE_WHILE_REVALIDATE, CachePolicy.evaluate(60_000, 60_000, 30_000));
+        assertEquals(CachePolicy.Freshness.STALE, CachePolicy.evaluate(90_000, 60_000, 30_000));
+        assertEquals(CachePolicy.Freshness.STALE, CachePolicy.evaluate(0, 0, 0));
+    }
+}
@@ -0,0 +1,33 @@
+import { WebPlugin } from "@capacitor/core"
+import type { WebCachePlugin, WebCacheStats } from "./web-cache"
+
+/**
+ * Web implementation of WebCachePlugin
+ * The browser's own HTTP cache applies on web, so there is nothing native to report or purge
+ */
+export class WebCacheWeb extends WebPlugin implements WebCachePlugin {
+  async getStats(): Promise<WebCacheStats> {
+    return {
+      hits: 0,
+      staleHits: 0,
+      revalidatedHits: 0,
+      offlineHits: 0,
+      misses: 0,
+      hitRate: 0,
+      backgroundRefreshes: 0,
+      bytesServedFromDisk: 0,
+      evictions: 0,
+      entryCount: 0,
+      sizeBytes: 0,
+      maxSizeBytes: 0,
+    }
+  }
+
+  async purge(_options?: { urlPrefix?: string }): Promise<{ removedEntries: number; freedBytes: number }> {
+    return { removedEntries: 0, freedBytes: 0 }
+  }
+
+  async resetStats(): Promise<{ success: boolean }> {
+    return { success: true }
+  }
+}
@@ -0,0 +1,37 @@
+import { registerPlugin } from "@capacitor/core"
+
+export interface WebCacheStats {
+  /** Served fresh from disk, no network */
+  hits: number
+  /** Served stale from disk while refreshing in the background */
+  staleHits: number
+  /** Served from disk after a 304 Not Modified */
+  revalidatedHits: number
+  /** Served from disk because the network request failed */
+  offlineHits: number
+  misses: number
+  /** All disk-served responses / (disk-served + misses) */
+  hitRate: number
+  backgroundRefreshes: number
+  bytesServedFromDisk: number
+  evictions: number
+  entryCount: number
+  sizeBytes: number
+  maxSizeBytes: number
+}
+
+/**
+ * Native cache the Android WebView uses for catalogue API responses and product images.
+ */
+export interface WebCachePlugin {
+  getStats(): Promise<WebCacheStats>
+  /** Drops every cached response, or only those whose url starts with urlPrefix */
+  purge(options?: { urlPrefix?: string }): Promise<{ removedEntries: number; freedBytes: number }>
+  resetStats(): Promise<{ success: boolean }>
+}
+
+const WebCache = registerPlugin<WebCachePlugin>("WebCache", {
+  web: () => import("./web-cache-web").then((m) => new m.WebCacheWeb()),
+})
+
+export default WebCache